@@ -1,4 +1,6 @@
 import java.io.*;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 
 /**
@@ -14,10 +16,48 @@ public class AIPlayerAdapter {
     // タイムアウト時間（5秒）
     private static final int TIMEOUT_SECONDS = 5;
 
+    /** プロトコルを指定するシステムプロパティ名 ("auto"でプロトコル2をネゴシエート) */
+    public static final String PROTOCOL_PROPERTY = "othello.protocol";
+    // ハンドシェイクの応答待ち時間（JVM起動を含む）
+    private static final long HANDSHAKE_TIMEOUT_MILLIS = 2000;
+    private static final String MOVE_BITS_PREFIX = "MOVE BITS:";
+    private static final String PONDER_BITS_PREFIX = "PONDER BITS:";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    // AIパスごとのネゴシエート結果
+    private static final Map<String, Integer> negotiatedVersions = new ConcurrentHashMap<>();
+
+    /** AIプロセスを対局中起動したままにするシステムプロパティ名 */
+    public static final String WARM_PROPERTY = "othello.warm";
+    /** 相手の手番中にPONDER BOARDを送るシステムプロパティ名 (othello.warmを含む) */
+    public static final String PONDER_PROPERTY = "othello.ponder";
+    // QUIT送信後、AIプロセスが自ら終了するのを待つ時間
+    private static final long QUIT_WAIT_MILLIS = 500;
+    // 常駐プロセスのエラー出力の捨て先 (JDK 8 には Redirect.DISCARD がないため)
+    private static final File NULL_FILE = new File(
+            System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+
+    // 起動したままのAIプロセス (othello.warm 指定時のみ)
+    private final boolean keepWarm;
+    private final boolean ponder;
+    private Process warmProcess;
+    private long warmStartNanos; // 起動時刻 (最初の応答を受け取るまで)
+    private PrintWriter warmWriter;
+    private BufferedReader warmReader;
+    private ExecutorService warmExecutor;
+
+    /** {@link #getMove(GameEngine)} の応答 */
+    public static class Reply {
+        public String move;           // 着手 ("a1"～"h8"または"pass")。無効な応答はそのまま
+        public int squareIndex = -1;  // プロトコル2で受け取ったマス番号 (それ以外は-1)
+        public boolean invalid;       // プロトコル2でマス番号でもpassでもない応答
+    }
+
     public AIPlayerAdapter(String aiPath, int playerColor) {
         this.aiPath = aiPath;
         this.playerColor = playerColor;
         this.playerName = (playerColor == GameEngine.BLACK ? "黒(1)" : "白(2)") + " - "  + (this.aiPath == "あなた" ? "あなた" : new File(aiPath).getName());
+        this.ponder = Boolean.getBoolean(PONDER_PROPERTY);
+        this.keepWarm = ponder || Boolean.getBoolean(WARM_PROPERTY);
     }
 
     public String getAiPath() {
@@ -31,6 +71,39 @@ public class AIPlayerAdapter {
         return playerColor;
     }
 
+    /**
+     * AIが対応するプロトコルのバージョンを返す。
+     * -Dothello.protocol=auto の場合のみ、AIごとに1度だけハンドシェイクで確認する。
+     * 大会では {@link MatchRunner#negotiateProtocols} で対局開始前に確認しておく。
+     * @return 2: ビットボード形式、1: 従来のテキスト形式
+     */
+    public int getProtocolVersion() {
+        if (!"auto".equals(System.getProperty(PROTOCOL_PROPERTY))) {
+            return 1;
+        }
+        Integer version = negotiatedVersions.get(aiPath);
+        if (version == null) {
+            // AIの起動を待つ間マップをロックしないよう、computeIfAbsentの外で確認する
+            version = handshake();
+            Integer previous = negotiatedVersions.putIfAbsent(aiPath, version);
+            if (previous != null) {
+                version = previous;
+            }
+        }
+        return version;
+    }
+
+    /** ハンドシェイクでプロトコル2に対応しているか確認する */
+    private int handshake() {
+        try {
+            String reply = exchange(HANDSHAKE_TIMEOUT_MILLIS, "PROTOCOL 2");
+            return reply.equals("PROTOCOL 2") ? 2 : 1;
+        } catch (TimeoutException | IOException e) {
+            // 応答しない・理解できないAIは従来プロトコル
+            return 1;
+        }
+    }
+
     /**
      * AIプロセスを起動し、指定されたタイムアウト時間で着手を受け取る。
      * @param boardString 盤面情報文字列
@@ -39,43 +112,235 @@ public class AIPlayerAdapter {
      * @throws IOException 通信エラーが発生した場合
      */
     public String getMove(String boardString) throws TimeoutException, IOException {
+        return request("MOVE BOARD:" + boardString); // 思考開始指示と盤面送信
+    }
+
+    /**
+     * AIが対応するプロトコルで局面を送り、着手を受け取る。
+     * プロトコル2では自石・相手石・合法手のビットボード (ビットi = 行優先のマス番号、a1=0～h8=63)
+     * を16進数16桁ずつ並べた固定長で送り、マス番号 "0"～"63" または "pass" のみを有効な応答とする。
+     * @param engine 局面 (このAIの手番であること)
+     * @return 着手。プロトコル2のマス番号は "a1"～"h8" に変換済み
+     * @throws TimeoutException 5秒以内に応答がなかった場合
+     * @throws IOException 通信エラーが発生した場合
+     */
+    public Reply getMove(GameEngine engine) throws TimeoutException, IOException {
+        Reply reply = new Reply();
+        if (getProtocolVersion() != 2) {
+            reply.move = getMove(engine.boardToString());
+            return reply;
+        }
+        reply.move = request(bitsFrame(MOVE_BITS_PREFIX, engine));
+        reply.squareIndex = GameEngine.parseSquareIndex(reply.move);
+        if (reply.squareIndex >= 0) {
+            reply.move = GameEngine.toMoveString(reply.squareIndex);
+        } else {
+            // "c5" などの座標形式は受け付けない
+            reply.invalid = !reply.move.equalsIgnoreCase("pass");
+        }
+        return reply;
+    }
+
+    /**
+     * 相手の手番中に、予想される局面をAIに先読みさせる。応答は待たない。
+     * othello.ponder 指定時のみ送信し、AIプロセスが未起動なら起動しておく。
+     * プロトコル2のAIには、AIの手番から見たビットボード (PONDER BITS) で送る。
+     * @param boardStrings 相手の各合法手を打った後の盤面文字列
+     */
+    public void ponder(List<String> boardStrings) {
+        if (!ponder) {
+            return;
+        }
+        try {
+            boolean bitboard = getProtocolVersion() == 2;
+            if (!isWarm()) {
+                startWarmProcess();
+            }
+            for (String boardString : boardStrings) {
+                if (bitboard) {
+                    GameEngine engine = new GameEngine();
+                    engine.loadBoard(boardString, playerColor);
+                    warmWriter.println(bitsFrame(PONDER_BITS_PREFIX, engine));
+                } else {
+                    warmWriter.println("PONDER BOARD:" + boardString);
+                }
+            }
+            warmStartNanos = 0; // 相手の思考時間を含むため起動時間として記録しない
+            warmWriter.flush();
+        } catch (IOException e) {
+            // 先読みは任意のため、失敗しても着手要求時に起動し直す
+            closeWarmProcess();
+        }
+    }
+
+    /** 起動したままのAIプロセスにQUITを送り、終了しなければ強制終了する */
+    public void close() {
+        if (warmProcess != null) {
+            warmWriter.println("QUIT");
+            warmWriter.flush();
+            try {
+                warmProcess.waitFor(QUIT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeWarmProcess();
+        }
+    }
+
+    /** 着手要求。othello.warm 指定時は起動済みのプロセスに送る */
+    private String request(String command) throws TimeoutException, IOException {
+        if (!keepWarm) {
+            return exchange(TIMEOUT_SECONDS * 1000L,
+                    "COLOR " + playerColor, // 色の通知
+                    command);
+        }
+        // 1手ごとに終了するAIの場合は起動し直して1度だけ再送する
+        for (int attempt = 0; ; attempt++) {
+            if (!isWarm()) {
+                startWarmProcess();
+            }
+            drainPendingOutput(); // 先読み中などに出力された行を応答と取り違えない
+            warmWriter.println(command);
+            warmWriter.flush();
+
+            Future<String> future = warmExecutor.submit(warmReader::readLine);
+            String move;
+            try {
+                move = future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException | ExecutionException e) {
+                closeWarmProcess();
+                throw new IOException("AI execution error or interrupted: " + e.getMessage());
+            } catch (java.util.concurrent.TimeoutException e) {
+                closeWarmProcess();
+                throw new TimeoutException("AI did not respond within " + TIMEOUT_SECONDS + " seconds.");
+            }
+            if (move != null && warmStartNanos != 0) {
+                JudgeMetrics.get().processStarted(System.nanoTime() - warmStartNanos);
+                warmStartNanos = 0;
+            }
+            if (move == null && attempt == 0) {
+                closeWarmProcess();
+                continue;
+            }
+            if (move == null || move.trim().isEmpty()) {
+                throw new IOException("AI returned empty move.");
+            }
+            return move.trim();
+        }
+    }
+
+    private boolean isWarm() {
+        return warmProcess != null && warmProcess.isAlive();
+    }
+
+    private void startWarmProcess() throws IOException {
+        closeWarmProcess();
+        warmStartNanos = System.nanoTime();
+        // 常駐中はエラー出力を読む機会がないため、標準出力に混ぜず捨てる
+        warmProcess = newProcessBuilder()
+                .redirectErrorStream(false)
+                .redirectError(ProcessBuilder.Redirect.to(NULL_FILE))
+                .start();
+        warmWriter = new PrintWriter(new OutputStreamWriter(warmProcess.getOutputStream()));
+        warmReader = new BufferedReader(new InputStreamReader(warmProcess.getInputStream()));
+        warmExecutor = Executors.newSingleThreadExecutor();
+        warmWriter.println("COLOR " + playerColor); // 色の通知は起動時に1度だけ
+        warmWriter.flush();
+    }
+
+    /** 着手要求の前に、すでに届いている未読の出力を読み捨てる */
+    private void drainPendingOutput() throws IOException {
+        char[] buffer = new char[256];
+        while (warmReader.ready()) {
+            if (warmReader.read(buffer) < 0) {
+                break;
+            }
+        }
+    }
+
+    private void closeWarmProcess() {
+        if (warmProcess != null) {
+            warmProcess.destroyForcibly();
+            warmExecutor.shutdownNow();
+            warmProcess = null;
+        }
+    }
+
+    /** AIを起動するためのProcessBuilder */
+    private ProcessBuilder newProcessBuilder() {
+        // JARファイルまたはクラスファイルを実行するためのコマンド
+        ProcessBuilder builder;
+        if (aiPath.endsWith(".jar")) {
+             builder = new ProcessBuilder("java", "-jar", aiPath);
+        } else {
+             // 例: java SampleAI (aiPath = SampleAI)
+             builder = new ProcessBuilder("java", aiPath); 
+        }
+        builder.redirectErrorStream(true); // エラー出力を標準出力に統合
+        return builder;
+    }
+
+    /** プレフィックスに続けて、このAIから見た自石・相手石・合法手を16進数16桁ずつ並べた固定長の行 */
+    private String bitsFrame(String prefix, GameEngine engine) {
+        int opponentColor = (playerColor == GameEngine.BLACK) ? GameEngine.WHITE : GameEngine.BLACK;
+        long own = engine.getBitboard(playerColor);
+        long opponent = engine.getBitboard(opponentColor);
+        long legalMoves = engine.getLegalMoves();
+        char[] frame = new char[prefix.length() + 48];
+        prefix.getChars(0, prefix.length(), frame, 0);
+        putHex(frame, prefix.length(), own);
+        putHex(frame, prefix.length() + 16, opponent);
+        putHex(frame, prefix.length() + 32, legalMoves);
+        return new String(frame);
+    }
+
+    private static void putHex(char[] frame, int offset, long bits) {
+        for (int i = 15; i >= 0; i--) {
+            frame[offset + i] = HEX[(int) (bits & 0xF)];
+            bits >>>= 4;
+        }
+    }
+
+    /**
+     * AIプロセスを起動して命令を送り、1行の応答を受け取る。
+     * @param timeoutMillis 応答待ちのタイムアウト (ミリ秒)
+     * @param lines 送信する命令
+     * @return AIの応答 (前後の空白を除去)
+     */
+    private String exchange(long timeoutMillis, String... lines) throws TimeoutException, IOException {
         String move = null;
         Process aiProcess = null;
         
         // 1. 外部プロセス起動
         try {
-            // JARファイルまたはクラスファイルを実行するためのコマンド
-            ProcessBuilder builder;
-            if (aiPath.endsWith(".jar")) {
-                 builder = new ProcessBuilder("java", "-jar", aiPath);
-            } else {
-                 // 例: java SampleAI (aiPath = SampleAI)
-                 builder = new ProcessBuilder("java", aiPath); 
-            }
-            builder.redirectErrorStream(true); // エラー出力を標準出力に統合
-            aiProcess = builder.start();
+            long spawnStart = System.nanoTime();
+            aiProcess = newProcessBuilder().start();
 
             // 2. 標準入力/出力の準備
-            PrintWriter writer = new PrintWriter(new OutputStreamWriter(aiProcess.getOutputStream()), true);
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(aiProcess.getOutputStream()));
             BufferedReader reader = new BufferedReader(new InputStreamReader(aiProcess.getInputStream()));
 
-            // 3. AIへの命令送信
-            writer.println("COLOR " + playerColor); // 色の通知
-            writer.println("MOVE BOARD:" + boardString); // 思考開始指示と盤面送信
+            // 3. AIへの命令送信 (まとめて1回でフラッシュ)
+            for (String line : lines) {
+                writer.println(line);
+            }
+            writer.flush();
             
             // 4. タイムアウト付きで応答を待つ
             ExecutorService executor = Executors.newSingleThreadExecutor();
             Future<String> future = executor.submit(reader::readLine);
 
             try {
-                // 5秒間、AIからの応答を待つ
-                move = future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                // 指定時間、AIからの応答を待つ
+                move = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                // 起動から最初の応答まで (JVM起動時間を含む)
+                JudgeMetrics.get().processStarted(System.nanoTime() - spawnStart);
             } catch (InterruptedException | ExecutionException e) {
                 // スレッド中断または実行エラー
                 throw new IOException("AI execution error or interrupted: " + e.getMessage());
             } catch (java.util.concurrent.TimeoutException e) {
                 // タイムアウト発生
-                throw new TimeoutException("AI did not respond within " + TIMEOUT_SECONDS + " seconds.");
+                throw new TimeoutException("AI did not respond within " + (timeoutMillis / 1000.0) + " seconds.");
             } finally {
                 // 終了処理
                 future.cancel(true);
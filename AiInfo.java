@@ -10,6 +10,8 @@ public class AiInfo {
   public int drawBlack;
   public int drawWhiete;
   public int countStone;
+  /** 不戦勝（スイス式の不戦勝ラウンド）で得た勝ち数 */
+  public int winBye;
 
   public AiInfo(String path) {
     this.path = path;
@@ -21,6 +23,24 @@ public class AiInfo {
     this.drawBlack = 0;
     this.drawWhiete = 0;
     this.countStone = 0;
+    this.winBye = 0;
+  }
+
+  public int getWins() {
+    return winBlack + winWhite;
+  }
+
+  public int getLoses() {
+    return loseBlack + loseWhite;
+  }
+
+  public int getDraws() {
+    return drawBlack + drawWhiete;
+  }
+
+  /** スイス式の順位点（勝ち=1、引き分け=0.5、不戦勝=1） */
+  public double getScore() {
+    return getWins() + winBye + getDraws() * 0.5;
   }
 
 }
@@ -0,0 +1,173 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 勝ち抜き戦 (シングル/ダブルイリミネーション)。
+ * 1試合は黒白を入れ替えた2局で、勝ち数→延長戦→石数差→シード順で勝者を決める。
+ * 同じ敗戦数のAI同士をシード順 (上位 vs 下位) で組み合わせ、
+ * 規定の敗戦数に達したAIから脱落する。総対局数は O(n)。
+ * 人数が奇数の場合の不戦勝は、まだ不戦勝になっていないAIに優先して与える。
+ */
+public class EliminationFormat implements TournamentFormat {
+    // 1試合あたりの対局数 (黒白1局ずつ)
+    private static final int GAMES_PER_MATCH = 2;
+    // 勝ち数が並んだ場合の延長戦 (黒白1局ずつ) の上限
+    private static final int MAX_EXTRA_MATCHES = 2;
+
+    private final int maxLosses;
+    private final Map<AiInfo, Integer> seeds = new HashMap<>();
+    private final Map<AiInfo, Integer> losses = new HashMap<>();
+    private final Map<AiInfo, Integer> eliminatedRound = new HashMap<>();
+    private final Set<AiInfo> byes = new HashSet<>();
+
+    /**
+     * @param maxLosses 脱落までの敗戦数 (1:シングル、2:ダブル)
+     */
+    public EliminationFormat(int maxLosses) {
+        this.maxLosses = maxLosses;
+    }
+
+    @Override
+    public List<AiInfo> run(List<AiInfo> entrants, MatchRunner runner) throws Exception {
+        for (int i = 0; i < entrants.size(); i++) {
+            seeds.put(entrants.get(i), i);
+            losses.put(entrants.get(i), 0);
+        }
+
+        int round = 0;
+        List<AiInfo> alive = new ArrayList<>(entrants);
+        while (alive.size() > 1) {
+            round++;
+            System.out.println("");
+            System.out.println((maxLosses == 1 ? "トーナメント" : "ダブルイリミネーション") + " 第" + round + "回戦");
+
+            List<AiInfo[]> pairs = pairRound(alive);
+            for (AiInfo loser : playMatches(pairs, runner)) {
+                int count = losses.merge(loser, 1, Integer::sum);
+                if (count >= maxLosses) {
+                    eliminatedRound.put(loser, round);
+                    System.out.println("  脱落：" + loser.file.getName());
+                }
+            }
+            alive.removeIf(eliminatedRound::containsKey);
+        }
+
+        // 優勝→遅く脱落した順。同じ回戦で脱落した場合は勝ち数、シード順
+        List<AiInfo> ranking = new ArrayList<>(entrants);
+        ranking.sort(Comparator.comparingInt((AiInfo ai) -> eliminatedRound.getOrDefault(ai, Integer.MAX_VALUE)).reversed()
+                .thenComparing(Comparator.comparingInt(AiInfo::getWins).reversed())
+                .thenComparingInt(seeds::get));
+        return ranking;
+    }
+
+    @Override
+    public String describeStanding(AiInfo ai) {
+        Integer round = eliminatedRound.get(ai);
+        return round == null ? ", 優勝" : ", 第" + round + "回戦で脱落";
+    }
+
+    /** 同じ敗戦数のAI同士を、シード上位 vs 下位で組み合わせる */
+    private List<AiInfo[]> pairRound(List<AiInfo> alive) {
+        List<List<AiInfo>> brackets = new ArrayList<>();
+        for (int l = 0; l < maxLosses; l++) {
+            brackets.add(new ArrayList<>());
+        }
+        for (AiInfo ai : alive) {
+            brackets.get(losses.get(ai)).add(ai);
+        }
+
+        List<AiInfo[]> pairs = new ArrayList<>();
+        // 勝者側・敗者側とも1人ずつ残った場合は決勝
+        if (maxLosses == 2 && brackets.get(0).size() == 1 && brackets.get(1).size() == 1) {
+            pairs.add(new AiInfo[] { brackets.get(0).get(0), brackets.get(1).get(0) });
+            return pairs;
+        }
+        for (List<AiInfo> bracket : brackets) {
+            List<AiInfo> pool = new ArrayList<>(bracket);
+            pool.sort(Comparator.comparingInt(seeds::get));
+            if (pool.size() % 2 == 1) {
+                AiInfo bye = pickBye(pool);
+                pool.remove(bye);
+                byes.add(bye);
+                System.out.println("  不戦勝：" + bye.file.getName());
+            }
+            for (int i = 0; i < pool.size() / 2; i++) {
+                pairs.add(new AiInfo[] { pool.get(i), pool.get(pool.size() - 1 - i) });
+            }
+        }
+        return pairs;
+    }
+
+    /** 奇数の場合の不戦勝は、まだ不戦勝になっていないシード最上位のAIに与える */
+    private AiInfo pickBye(List<AiInfo> pool) {
+        for (AiInfo ai : pool) {
+            if (!byes.contains(ai)) {
+                return ai;
+            }
+        }
+        return pool.get(0);
+    }
+
+    /**
+     * 各組の試合をまとめて実行し、敗者を返す。
+     * @param pairs 組み合わせ
+     * @return 各組の敗者 (pairsと同じ順序)
+     */
+    private List<AiInfo> playMatches(List<AiInfo[]> pairs, MatchRunner runner) throws Exception {
+        int[] wins = new int[pairs.size() * 2];
+        int[] stones = new int[pairs.size() * 2];
+
+        List<Integer> undecided = new ArrayList<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            undecided.add(i);
+        }
+        for (int set = 0; set <= MAX_EXTRA_MATCHES && !undecided.isEmpty(); set++) {
+            List<AiInfo[]> games = new ArrayList<>();
+            for (int i : undecided) {
+                games.add(new AiInfo[] { pairs.get(i)[0], pairs.get(i)[1] });
+                games.add(new AiInfo[] { pairs.get(i)[1], pairs.get(i)[0] });
+            }
+            List<Result> results = runner.playAll(games);
+            for (int g = 0; g < games.size(); g++) {
+                int pair = undecided.get(g / GAMES_PER_MATCH);
+                // 偶数番目は組の1人目が黒、奇数番目は白
+                int first = (g % 2 == 0) ? GameEngine.BLACK : GameEngine.WHITE;
+                Result result = results.get(g);
+                System.out.println(MatchRunner.formatGame(games.get(g)[0], games.get(g)[1], result));
+                if (result.winnerColor == first) {
+                    wins[pair * 2]++;
+                } else if (result.winnerColor != 0) {
+                    wins[pair * 2 + 1]++;
+                }
+                int firstStones = first == GameEngine.BLACK ? result.countBlack : result.countWhite;
+                int secondStones = first == GameEngine.BLACK ? result.countWhite : result.countBlack;
+                stones[pair * 2] += firstStones;
+                stones[pair * 2 + 1] += secondStones;
+            }
+            undecided.removeIf(i -> wins[i * 2] != wins[i * 2 + 1]);
+        }
+
+        List<AiInfo> losers = new ArrayList<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            AiInfo first = pairs.get(i)[0];
+            AiInfo second = pairs.get(i)[1];
+            boolean firstWins;
+            if (wins[i * 2] != wins[i * 2 + 1]) {
+                firstWins = wins[i * 2] > wins[i * 2 + 1];
+            } else if (stones[i * 2] != stones[i * 2 + 1]) {
+                firstWins = stones[i * 2] > stones[i * 2 + 1];
+            } else {
+                firstWins = seeds.get(first) < seeds.get(second);
+            }
+            AiInfo winner = firstWins ? first : second;
+            System.out.println("  勝ち抜け：" + winner.file.getName());
+            losers.add(firstWins ? second : first);
+        }
+        return losers;
+    }
+}
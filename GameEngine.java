@@ -33,6 +33,42 @@ public class GameEngine {
         currentPlayer = BLACK;
     }
     
+    /**
+     * プロトコル用の盤面文字列から局面を復元する。
+     * @param boardString 64文字の盤面文字列
+     * @param player 手番の色
+     * @throws IllegalArgumentException 盤面文字列が不正な場合
+     */
+    public void loadBoard(String boardString, int player) {
+        if (!isValidBoardString(boardString)) {
+            throw new IllegalArgumentException("盤面文字列が不正です: " + boardString);
+        }
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                board[i][j] = boardString.charAt(i * SIZE + j) - '0';
+            }
+        }
+        currentPlayer = player;
+    }
+
+    /**
+     * 盤面文字列が64文字の0/1/2のみで構成されているか。
+     * @param boardString 盤面文字列
+     * @return 正しい形式の場合true
+     */
+    public static boolean isValidBoardString(String boardString) {
+        if (boardString == null || boardString.length() != SIZE * SIZE) {
+            return false;
+        }
+        for (int i = 0; i < boardString.length(); i++) {
+            char c = boardString.charAt(i);
+            if (c < '0' + EMPTY || c > '0' + WHITE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public int getCurrentPlayer() {
         return currentPlayer;
     }
@@ -65,6 +101,44 @@ public class GameEngine {
         }
     }
     
+    /**
+     * マス番号（行優先、a1=0～h8=63）で石を打つ。プロトコル2用。
+     * @param index マス番号
+     * @return 成功した場合true、無効手の場合false
+     */
+    public boolean applyMove(int index) {
+        if (index < 0 || index >= SIZE * SIZE) {
+            return false;
+        }
+        return placeStone(index / SIZE, index % SIZE);
+    }
+
+    /**
+     * プロトコル2の応答（"0"～"63"）をマス番号に変換する。
+     * @param reply AIの応答
+     * @return マス番号。数値でない・範囲外の場合は-1
+     */
+    public static int parseSquareIndex(String reply) {
+        int length = reply.length();
+        if (length < 1 || length > 2) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = reply.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index < SIZE * SIZE ? index : -1;
+    }
+
+    /** マス番号を着手文字列（例: "c5"）に変換 */
+    public static String toMoveString(int index) {
+        return new String(new char[] { (char) ('a' + index % SIZE), (char) ('1' + index / SIZE) });
+    }
+
     // 以下、placeStone, isLegalMove, hasLegalMove は前バージョンと同じロジックを使用
     // ... (前回のGameEngineのコードをコピーしてください) ...
     // --- placeStone, isLegalMove, hasLegalMove メソッドの内容 ---
@@ -139,6 +213,32 @@ public class GameEngine {
     }
     // --- GameEngineのコード終了 ---
 
+    /** 指定した色の石の配置をビットボード（ビットi = マス番号i）に変換 */
+    public long getBitboard(int color) {
+        long bits = 0L;
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (board[i][j] == color) {
+                    bits |= 1L << (i * SIZE + j);
+                }
+            }
+        }
+        return bits;
+    }
+
+    /** 現在の手番の合法手をビットボードで返す */
+    public long getLegalMoves() {
+        long bits = 0L;
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (isLegalMove(i, j)) {
+                    bits |= 1L << (i * SIZE + j);
+                }
+            }
+        }
+        return bits;
+    }
+
     /** 盤面をプロトコル用の文字列形式に変換 */
     public String boardToString() {
         StringBuilder sb = new StringBuilder();
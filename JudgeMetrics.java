@@ -0,0 +1,290 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ObjectName;
+
+/**
+ * 対戦中のスループットとAIの健全性を集計するメトリクス。
+ * ローカルのHTTPエンドポイント (Prometheusテキスト形式) とJMX MBeanで公開する。
+ * 有効化: java -Dothello.metrics.port=9404 -jar OthelloJudgeConsole.jar ...
+ */
+public class JudgeMetrics implements JudgeMetricsMBean {
+    /** メトリクス公開ポートを指定するシステムプロパティ名 */
+    public static final String PORT_PROPERTY = "othello.metrics.port";
+    public static final String MBEAN_NAME = "OthelloJudgeConsole:type=JudgeMetrics";
+
+    // 毎分の対局数・毎秒の着手数を計算する集計期間
+    private static final long GAME_WINDOW_NANOS = 60_000_000_000L;
+    private static final long MOVE_WINDOW_NANOS = 10_000_000_000L;
+
+    private static final JudgeMetrics INSTANCE = new JudgeMetrics();
+
+    private final AtomicLong gamesStarted = new AtomicLong();
+    private final AtomicLong gamesCompleted = new AtomicLong();
+    private final AtomicInteger activeGames = new AtomicInteger();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong movesTotal = new AtomicLong();
+    private final AtomicLong startupCount = new AtomicLong();
+    private final AtomicLong startupNanosTotal = new AtomicLong();
+    private final AtomicLong startupNanosMax = new AtomicLong();
+    private final RateWindow gameWindow = new RateWindow(GAME_WINDOW_NANOS);
+    private final RateWindow moveWindow = new RateWindow(MOVE_WINDOW_NANOS);
+    private final Map<String, AiFaults> faults = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+
+    private JudgeMetrics() {
+    }
+
+    public static JudgeMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * システムプロパティでポートが指定されていればHTTPエンドポイントとMBeanを起動する。
+     * 起動に失敗しても対戦自体は続行する。
+     */
+    public synchronized void startIfConfigured() {
+        String port = System.getProperty(PORT_PROPERTY);
+        if (port == null || port.trim().isEmpty() || server != null) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(port.trim())), 0);
+            server.createContext("/metrics", this::handleScrape);
+            server.start();
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(MBEAN_NAME));
+            System.out.println("メトリクス公開: http://localhost:" + server.getAddress().getPort() + "/metrics , JMX " + MBEAN_NAME);
+        } catch (Exception e) {
+            System.err.println("[WARN] メトリクスの公開に失敗しました: " + e.getMessage());
+        }
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(MBEAN_NAME));
+            } catch (Exception e) {
+                // 登録されていない場合は無視
+            }
+        }
+    }
+
+    // --- 記録 ---
+
+    public void gameStarted() {
+        gamesStarted.incrementAndGet();
+        activeGames.incrementAndGet();
+    }
+
+    public void gameFinished() {
+        activeGames.decrementAndGet();
+        gamesCompleted.incrementAndGet();
+        gameWindow.mark();
+    }
+
+    public void setQueueDepth(int depth) {
+        queueDepth.set(depth);
+    }
+
+    public void moveApplied() {
+        movesTotal.incrementAndGet();
+        moveWindow.mark();
+    }
+
+    /**
+     * AIプロセスの起動から最初の応答行を受け取るまでの時間を記録する。
+     * JVMの起動時間を含むため、起動の遅いAIの検出に使う (初手の思考時間も含む)。
+     */
+    public void processStarted(long nanos) {
+        startupCount.incrementAndGet();
+        startupNanosTotal.addAndGet(nanos);
+        startupNanosMax.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void timeout(String aiPath) {
+        faultsOf(aiPath).timeouts.incrementAndGet();
+    }
+
+    public void illegalMove(String aiPath) {
+        faultsOf(aiPath).illegalMoves.incrementAndGet();
+    }
+
+    public void error(String aiPath) {
+        faultsOf(aiPath).errors.incrementAndGet();
+    }
+
+    private AiFaults faultsOf(String aiPath) {
+        return faults.computeIfAbsent(new File(aiPath).getName(), k -> new AiFaults());
+    }
+
+    // --- JMX ---
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.get();
+    }
+
+    @Override
+    public long getGamesCompleted() {
+        return gamesCompleted.get();
+    }
+
+    @Override
+    public int getActiveGames() {
+        return activeGames.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public long getMovesTotal() {
+        return movesTotal.get();
+    }
+
+    @Override
+    public double getGamesPerMinute() {
+        return gameWindow.perSecond() * 60.0;
+    }
+
+    @Override
+    public double getMovesPerSecond() {
+        return moveWindow.perSecond();
+    }
+
+    @Override
+    public long getStartupCount() {
+        return startupCount.get();
+    }
+
+    @Override
+    public double getStartupLatencyAvgMillis() {
+        long count = startupCount.get();
+        return count == 0 ? 0.0 : startupNanosTotal.get() / 1_000_000.0 / count;
+    }
+
+    @Override
+    public double getStartupLatencyMaxMillis() {
+        return startupNanosMax.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String[] getAiFaults() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, AiFaults> e : new TreeMap<>(faults).entrySet()) {
+            lines.add(String.format("%s: timeout=%d, illegal=%d, error=%d", e.getKey(),
+                    e.getValue().timeouts.get(), e.getValue().illegalMoves.get(), e.getValue().errors.get()));
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    // --- Prometheus ---
+
+    /** Prometheusテキスト形式 (version 0.0.4) でメトリクスを出力する */
+    public String toPrometheusText() {
+        StringBuilder sb = new StringBuilder();
+        metric(sb, "othello_games_started_total", "counter", "開始した対局数", getGamesStarted());
+        metric(sb, "othello_games_completed_total", "counter", "終了した対局数", getGamesCompleted());
+        metric(sb, "othello_active_games", "gauge", "対戦中の対局数", getActiveGames());
+        metric(sb, "othello_queue_depth", "gauge", "未実施の対局数", getQueueDepth());
+        metric(sb, "othello_moves_total", "counter", "適用した着手数", getMovesTotal());
+        metric(sb, "othello_games_per_minute", "gauge", "直近60秒の毎分対局数", getGamesPerMinute());
+        metric(sb, "othello_moves_per_second", "gauge", "直近10秒の毎秒着手数", getMovesPerSecond());
+
+        sb.append("# HELP othello_process_startup_seconds AIプロセス起動から最初の応答までの時間 (JVM起動・思考時間を含む)\n");
+        sb.append("# TYPE othello_process_startup_seconds summary\n");
+        sb.append("othello_process_startup_seconds_sum ").append(startupNanosTotal.get() / 1e9).append('\n');
+        sb.append("othello_process_startup_seconds_count ").append(startupCount.get()).append('\n');
+        metric(sb, "othello_process_startup_seconds_max", "gauge", "AIプロセス起動から最初の応答までの最大時間", startupNanosMax.get() / 1e9);
+
+        Map<String, AiFaults> sorted = new TreeMap<>(faults);
+        sb.append("# HELP othello_ai_faults_total AIごとの敗因 (timeout/illegal_move/error)\n");
+        sb.append("# TYPE othello_ai_faults_total counter\n");
+        for (Map.Entry<String, AiFaults> e : sorted.entrySet()) {
+            String ai = escapeLabel(e.getKey());
+            sb.append("othello_ai_faults_total{ai=\"").append(ai).append("\",reason=\"timeout\"} ")
+                    .append(e.getValue().timeouts.get()).append('\n');
+            sb.append("othello_ai_faults_total{ai=\"").append(ai).append("\",reason=\"illegal_move\"} ")
+                    .append(e.getValue().illegalMoves.get()).append('\n');
+            sb.append("othello_ai_faults_total{ai=\"").append(ai).append("\",reason=\"error\"} ")
+                    .append(e.getValue().errors.get()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void metric(StringBuilder sb, String name, String type, String help, Number value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private void handleScrape(HttpExchange exchange) throws IOException {
+        byte[] body = toPrometheusText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /** AIごとの敗因カウンタ */
+    private static class AiFaults {
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong illegalMoves = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    /** 直近の一定期間に発生したイベント数から毎秒の発生率を求める */
+    private static class RateWindow {
+        private final long windowNanos;
+        private final long startNanos = System.nanoTime();
+        private final ArrayDeque<Long> marks = new ArrayDeque<>();
+
+        RateWindow(long windowNanos) {
+            this.windowNanos = windowNanos;
+        }
+
+        synchronized void mark() {
+            long now = System.nanoTime();
+            marks.addLast(now);
+            evict(now);
+        }
+
+        synchronized double perSecond() {
+            long now = System.nanoTime();
+            evict(now);
+            // 起動直後は経過時間で割る
+            long span = Math.min(windowNanos, Math.max(now - startNanos, 1));
+            return marks.size() / (span / 1e9);
+        }
+
+        private void evict(long now) {
+            while (!marks.isEmpty() && now - marks.peekFirst() > windowNanos) {
+                marks.removeFirst();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * JMX公開用のメトリクスインターフェース。
+ * 実装は {@link JudgeMetrics}。
+ */
+public interface JudgeMetricsMBean {
+    long getGamesStarted();
+
+    long getGamesCompleted();
+
+    int getActiveGames();
+
+    int getQueueDepth();
+
+    long getMovesTotal();
+
+    double getGamesPerMinute();
+
+    double getMovesPerSecond();
+
+    long getStartupCount();
+
+    double getStartupLatencyAvgMillis();
+
+    double getStartupLatencyMaxMillis();
+
+    /** AIごとのタイムアウト・無効手・エラー件数 (1行1AI) */
+    String[] getAiFaults();
+}
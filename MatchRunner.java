@@ -0,0 +1,125 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 対局を並列に実行し、結果をAiInfoへ集計するクラス。
+ * 各対局は従来どおり {@link OthelloJudgeConsole#runGameLoop()} で実行する。
+ * 並列数: -Dothello.parallel=[対局数] (既定は1で逐次実行)
+ */
+public class MatchRunner {
+    public static final String PARALLEL_PROPERTY = "othello.parallel";
+
+    private final ExecutorService executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ResultStore resultStore = ResultStore.fromSystemProperties();
+
+    public MatchRunner(int parallelism) {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+    }
+
+    /** システムプロパティの並列数でMatchRunnerを生成する */
+    public static MatchRunner fromSystemProperties() {
+        return new MatchRunner(Integer.getInteger(PARALLEL_PROPERTY, 1));
+    }
+
+    /**
+     * 1局を実行キューに登録する。終了時に両AIの成績へ反映される。
+     * @param black 黒番AI
+     * @param white 白番AI
+     * @return 対局結果
+     */
+    public Future<Result> submit(AiInfo black, AiInfo white) {
+        JudgeMetrics.get().setQueueDepth(queued.incrementAndGet());
+        return executor.submit(() -> {
+            JudgeMetrics.get().setQueueDepth(queued.decrementAndGet());
+            OthelloJudgeConsole judge = new OthelloJudgeConsole(black.path, white.path, false);
+            Result result = judge.runGameLoop();
+            if (result == null) {
+                throw new IOException("対局を実行できませんでした: " + black.file.getName() + " vs " + white.file.getName());
+            }
+            record(black, white, result);
+            return result;
+        });
+    }
+
+    /**
+     * 複数の対局をまとめて実行し、全て終わるまで待つ。
+     * @param games {黒番AI, 白番AI} の配列のリスト
+     * @return gamesと同じ順序の対局結果
+     */
+    public List<Result> playAll(List<AiInfo[]> games) throws Exception {
+        List<Future<Result>> futures = new ArrayList<>();
+        for (AiInfo[] game : games) {
+            futures.add(submit(game[0], game[1]));
+        }
+        List<Result> results = new ArrayList<>();
+        for (Future<Result> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    /**
+     * 全参加AIのプロトコルを対局開始前に並列で確認する (-Dothello.protocol=auto の場合のみ)。
+     * 対局中にハンドシェイクでAIを起動すると、対局の途中で待ち時間が発生するため。
+     * @param entrants 参加AI
+     */
+    public void negotiateProtocols(List<AiInfo> entrants) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (AiInfo ai : entrants) {
+            futures.add(executor.submit(() -> new AIPlayerAdapter(ai.path, GameEngine.BLACK).getProtocolVersion()));
+        }
+        for (Future<Integer> future : futures) {
+            future.get();
+        }
+    }
+
+    /** 全対局の結果 */
+    public ResultStore getResults() {
+        return resultStore;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** 対局結果を両AIの成績に加算する */
+    private synchronized void record(AiInfo black, AiInfo white, Result result) {
+        if (result.winnerColor == GameEngine.BLACK) {
+            black.winBlack++;
+            white.loseWhite++;
+        } else if (result.winnerColor == GameEngine.WHITE) {
+            black.loseBlack++;
+            white.winWhite++;
+        } else {
+            black.drawBlack++;
+            white.drawWhiete++;
+        }
+        black.countStone += result.countBlack;
+        white.countStone += result.countWhite;
+        resultStore.add(black, white, result);
+    }
+
+    /** 勝者表示用の文字列 (例: "勝者：黒：xxx.jar") */
+    public static String describeWinner(Result result) {
+        if (result.winnerColor == GameEngine.BLACK) {
+            return "勝者：黒：" + new File(result.winnerAiPah).getName();
+        } else if (result.winnerColor == GameEngine.WHITE) {
+            return "勝者：白：" + new File(result.winnerAiPah).getName();
+        }
+        return "引き分け";
+    }
+
+    /** 1局分の結果行 */
+    public static String formatGame(AiInfo black, AiInfo white, Result result) {
+        return String.format("  黒：%s vs 白：%s : 黒(%02d), 白(%02d), %s : %s",
+                black.file.getName(), white.file.getName(),
+                result.countBlack, result.countWhite, describeWinner(result), result.reason);
+    }
+}
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Scanner;
@@ -71,95 +70,61 @@ public class OthelloJudgeConsole {
             return;
         }
 
+        // メトリクス公開 (-Dothello.metrics.port 指定時のみ)
+        JudgeMetrics.get().startIfConfigured();
+
+        // 例外時も必ず停止する (HTTPサーバのスレッドが残るとJVMが終了しない)
+        try {
+            play(listAiInfo);
+        } finally {
+            JudgeMetrics.get().stop();
+        }
+    }
+
+    /**
+     * AI同士の大会、または人間 vs AI の対局を行う。
+     * 
+     * @param listAiInfo 参加AI
+     */
+    private static void play(List<AiInfo> listAiInfo) {
         // AI vs AI
         if (listAiInfo.size() >= 2) {
+            MatchRunner runner = MatchRunner.fromSystemProperties();
             try {
-                // 総当たりで戦う
-                for (int b = 0; b < listAiInfo.size(); b++) {
-                    for (int w = 0; w < listAiInfo.size(); w++) {
-                        if (b == w) {
-                            continue;
-                        }
-
-                        AiInfo blackAi = listAiInfo.get(b);
-                        AiInfo whiteAi = listAiInfo.get(w);
-
-                        System.out.println("");
-                        System.out.println("黒：" + blackAi.file.getName() + "  vs  白：" + whiteAi.file.getName());
-
-                        // ３回勝負
-                        for (int l = 1; l <= 3; l++) {
-                            System.out.print("  " + l + "回戦:対戦中・・・");
-                            OthelloJudgeConsole judge = new OthelloJudgeConsole(blackAi.path, whiteAi.path, false);
-                            Result result = judge.runGameLoop();
-                            if (result == null) {
-                                scanner.close();
-                                return;
-                            }
-                            System.out.print("\r");
-                            String winner = "引き分け";
-                            if (result.countBlack != result.countWhite) {
-                                if (result.countBlack > result.countWhite) {
-                                    winner = "勝者：黒：";
-                                    blackAi.winBlack++;
-                                    whiteAi.loseWhite++;
-                                } else if (result.countBlack < result.countWhite) {
-                                    winner = "勝者：白：";
-                                    blackAi.loseBlack++;
-                                    whiteAi.winWhite++;
-                                }
-                                if (result.winnerAiPah == null) {
-                                    winner += result.winnerAiPah;
-                                } else {
-                                    File fileWinner = new File(result.winnerAiPah);
-                                    winner += fileWinner.getName();
-                                }
-                            } else {
-                                blackAi.drawBlack++;
-                                whiteAi.drawWhiete++;
-                            }
-                            System.out.println(String.format("  %d回戦:試合終了：黒(%02d), 白(%02d), %s : %s",
-                                    l, result.countBlack, result.countWhite, winner, result.reason));
-
-                            blackAi.countStone += result.countBlack;
-                            whiteAi.countStone += result.countWhite;
-
-                        } // l
-
-                    } // w
-                } // b
+                // 大会形式 (既定は総当たり)
+                TournamentFormat format = TournamentFormat.of(System.getProperty(TournamentFormat.FORMAT_PROPERTY));
+                runner.negotiateProtocols(listAiInfo);
+                List<AiInfo> ranking = format.run(listAiInfo, runner);
 
                 System.out.println("------------------------");
-                // 並び替え
-                listAiInfo.sort(new Comparator<AiInfo>() {
-                    @Override
-                    public int compare(AiInfo a1, AiInfo a2) {
-                        int a1Win = a1.winBlack + a1.winWhite;
-                        int a2Win = a2.winBlack + a2.winWhite;
-                        if (a1Win == a2Win) {
-                            // 勝利数が同じ場合は負け数が少ない方が上
-                            int a1Lose = a1.loseBlack + a1.loseWhite;
-                            int a2Lose = a2.loseBlack + a2.loseWhite;
-                            return a1Lose - a2Lose;
-                        }
-                        return a2Win - a1Win;
-                    }
-                });
-                for (int i = 0; i < listAiInfo.size(); i++) {
-                    AiInfo ai = listAiInfo.get(i);
+                for (int i = 0; i < ranking.size(); i++) {
+                    AiInfo ai = ranking.get(i);
                     System.out.println(String.format(
-                            "第%d位:勝ち:%02d(黒:%02d,白:%02d), 負け:%02d(黒:%02d,白:%02d), 引分:%02d(黒:%02d,白:%02d), 獲得石数:%03d : %s",
+                            "第%d位:勝ち:%02d(黒:%02d,白:%02d), 負け:%02d(黒:%02d,白:%02d), 引分:%02d(黒:%02d,白:%02d), 獲得石数:%03d%s : %s",
                             i + 1,
-                            ai.winBlack + ai.winWhite, ai.winBlack, ai.winWhite,
-                            ai.loseBlack + ai.loseWhite, ai.loseBlack, ai.loseWhite,
-                            ai.drawBlack + ai.drawWhiete, ai.drawBlack, ai.drawWhiete,
-                            ai.countStone,
+                            ai.getWins(), ai.winBlack, ai.winWhite,
+                            ai.getLoses(), ai.loseBlack, ai.loseWhite,
+                            ai.getDraws(), ai.drawBlack, ai.drawWhiete,
+                            ai.countStone, format.describeStanding(ai),
                             ai.file.getName()));
                 }
 
+                // 対戦表・手番別勝率とCSV出力 (指定時のみ)
+                ResultStore results = runner.getResults();
+                if (Boolean.getBoolean(ResultStore.REPORT_PROPERTY)) {
+                    results.printReport(ranking, System.out);
+                }
+                String csvPath = System.getProperty(ResultStore.CSV_PROPERTY);
+                if (csvPath != null && !csvPath.isEmpty()) {
+                    results.exportCsv(new File(csvPath));
+                    System.out.println("全" + results.size() + "局の結果を出力しました: " + csvPath);
+                }
+
             } catch (Exception e) {
                 System.err.println("致命的なエラーが発生しました: " + e.getMessage());
                 e.printStackTrace(); // スタックトレースをファイルに出力
+            } finally {
+                runner.shutdown();
             }
         }
         else
@@ -218,11 +183,16 @@ public class OthelloJudgeConsole {
             String dateString = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
 
             // 最終ファイル名: 日付_黒番ファイル名_白番ファイル名.txt
-            String logFileName = dateString + "_" + blackName + "_" + whiteName + ".log";
+            // 並列対局で同名になる場合は連番を付ける (例: ..._2.log)
+            String baseName = dateString + "_" + blackName + "_" + whiteName;
+            File logFile = new File(baseName + ".log");
+            for (int n = 2; !logFile.createNewFile(); n++) {
+                logFile = new File(baseName + "_" + n + ".log");
+            }
 
             // PrintStreamを設定 (UTF-8エンコーディング指定)
             // これ以降、log.println()でファイルに書き込まれる
-            log = new PrintStream(new File(logFileName), "UTF-8");
+            log = new PrintStream(logFile, "UTF-8");
 
             return true;
         } catch (FileNotFoundException e) {
@@ -235,7 +205,8 @@ public class OthelloJudgeConsole {
     }
 
     /** メインのゲームループ */
-    private Result runGameLoop() {
+    Result runGameLoop() {
+        JudgeMetrics.get().gameStarted();
         try {
             Result result = null;
 
@@ -267,27 +238,38 @@ public class OthelloJudgeConsole {
 
                 boolean hasLegalMove = gameEngine.hasLegalMove();
                 String move = null;
+                int moveIndex = -1; // プロトコル2で受け取ったマス番号
 
                 if (currentAI.getAiPath().equals("あなた")) {
-                    move = handleHumanTurn();
+                    move = handleHumanTurn(currentAI == blackAI ? whiteAI : blackAI);
                 } else {
 
                     try {
                         // 1. AIから着手を取得
-                        move = currentAI.getMove(gameEngine.boardToString());
+                        AIPlayerAdapter.Reply reply = currentAI.getMove(gameEngine);
+                        move = reply.move;
+                        moveIndex = reply.squareIndex;
                         println( ">>> " + currentAI.getPlayerName() + "が打った手: " + move);
                         if (move.length() > "[ERROR]".length() && move.substring(0, "[ERROR]".length() - 1) == "[ERROR]") {
                             println( "[ERROR] AIプログラム側でエラーが発生 ");
+                            JudgeMetrics.get().error(currentAI.getAiPath());
                             return endGame(opponentColor, currentAI.getPlayerName() + "でエラーが発生したため、");
                         }
+                        if (reply.invalid) {
+                            println( "[ERROR] 無効手: プロトコル2の応答 " + move + " はマス番号(0～63)でもpassでもありません。");
+                            JudgeMetrics.get().illegalMove(currentAI.getAiPath());
+                            return endGame(opponentColor, currentAI.getPlayerName() + "が無効手（プロトコル2の不正な応答）を打ったため、");
+                        }
 
                     } catch (TimeoutException e) {
                         // 2. タイムアウト判定
                         println( "[ERROR] タイムアウト発生: " + e.getMessage());
+                        JudgeMetrics.get().timeout(currentAI.getAiPath());
                         return endGame(opponentColor, currentAI.getPlayerName() + "が5秒以内に応答しなかったため、");
                     } catch (IOException e) {
                         // 3. 通信エラーなど
                         println( "[ERROR] AI実行エラー: " + e.getMessage());
+                        JudgeMetrics.get().error(currentAI.getAiPath());
                         return endGame(opponentColor, currentAI.getPlayerName() + "の実行中にエラーが発生したため、");
                     }
                 }
@@ -299,10 +281,11 @@ public class OthelloJudgeConsole {
                         return result;
                     }
                 } else {
-                    result = handleStonePlacement(move, hasLegalMove, currentAI, opponentColor);
+                    result = handleStonePlacement(move, moveIndex, hasLegalMove, currentAI, opponentColor);
                     if (result != null) {
                         return result;
                     }
+                    JudgeMetrics.get().moveApplied(); // パスは着手数に含めない
                 }
 
                 // 5. 手番交代
@@ -319,6 +302,9 @@ public class OthelloJudgeConsole {
             e.printStackTrace(log); // スタックトレースをファイルに出力
             return null;
         } finally {
+            blackAI.close();
+            whiteAI.close();
+            JudgeMetrics.get().gameFinished();
             if (log != null) {
                 log.close(); // ログファイルを閉じる
                 log = null;
@@ -327,7 +313,10 @@ public class OthelloJudgeConsole {
     }
 
     // --- 人間プレイヤーの入力処理 ---
-    private String handleHumanTurn() {
+    private String handleHumanTurn(AIPlayerAdapter opponentAI) {
+        // 入力を待つ間、AIに予想局面を先読みさせる (othello.ponder 指定時のみ)
+        opponentAI.ponder(predictPositions());
+
         // コンソールに現在の盤面を表示し、入力を促す（ログファイルにも出力）
         String boardDisplay = gameEngine.displayBoard();
         
@@ -372,11 +361,32 @@ public class OthelloJudgeConsole {
         return move;
     }
 
+    /** 現在の手番の各合法手を打った後の盤面 (合法手がない場合はパス後の現在の盤面) */
+    private List<String> predictPositions() {
+        List<String> positions = new ArrayList<>();
+        String boardString = gameEngine.boardToString();
+        for (int row = 0; row < GameEngine.SIZE; row++) {
+            for (int col = 0; col < GameEngine.SIZE; col++) {
+                if (gameEngine.isLegalMove(row, col)) {
+                    GameEngine next = new GameEngine();
+                    next.loadBoard(boardString, gameEngine.getCurrentPlayer());
+                    next.placeStone(row, col);
+                    positions.add(next.boardToString());
+                }
+            }
+        }
+        if (positions.isEmpty()) {
+            positions.add(boardString);
+        }
+        return positions;
+    }
+
     /** パス処理 */
     private Result handlePass(boolean hasLegalMove, AIPlayerAdapter currentAI, int opponentColor) {
         if (hasLegalMove) {
             // 合法手があるのにパスは無効手
             println( "[ERROR] 無効手: 合法手があるにも関わらずパスしました。");
+            JudgeMetrics.get().illegalMove(currentAI.getAiPath());
             return endGame(opponentColor, currentAI.getPlayerName() + "が無効手（不必要なパス）を打ったため、");
         } else {
             println( "（合法手がないためパスしました）");
@@ -391,29 +401,27 @@ public class OthelloJudgeConsole {
     }
 
     /** 石の配置処理 */
-    private Result handleStonePlacement(String move, boolean hasLegalMove, AIPlayerAdapter currentAI,
+    private Result handleStonePlacement(String move, int moveIndex, boolean hasLegalMove, AIPlayerAdapter currentAI,
             int opponentColor) {
-        if (!gameEngine.applyMove(move)) {
+        boolean applied = (moveIndex >= 0) ? gameEngine.applyMove(moveIndex) : gameEngine.applyMove(move);
+        if (!applied) {
             // 不正な座標、または合法手ではない
             println( "[ERROR] 無効手: 座標 " + move + " は合法手ではありません。");
+            JudgeMetrics.get().illegalMove(currentAI.getAiPath());
             return endGame(opponentColor, currentAI.getPlayerName() + "が無効手（不正な位置への着手）を打ったため、");
         } else if (!hasLegalMove) {
             // パスしなければならない局面で着手した場合も無効手
             println( "[ERROR] 無効手: パスしなければならない局面で着手しました。");
+            JudgeMetrics.get().illegalMove(currentAI.getAiPath());
             return endGame(opponentColor, currentAI.getPlayerName() + "が無効手（本来パスすべき局面での着手）を打ったため、");
         } else {
             // 合法な着手
             println( "[SUCCESS] " + currentAI.getPlayerName() + "の着手 (" + move + ") を適用しました。");
             println( gameEngine.displayBoard()); // 更新後の盤面表示
             println( "MOVE BOARD:" + gameEngine.boardToString());
-            // 人間の場合は数秒見せる
+            // 人間の着手後は盤面を表示したまま待たずにAIへ手番を渡す
             if (currentAI.getAiPath().equals("あなた")) {
-               try {
-                    Thread.sleep(1000); 
-                } catch (InterruptedException e) {
-                    // スリープ中に中断された場合の処理（ここでは無視して続行）
-                    Thread.currentThread().interrupt();
-                }
+                System.out.println("AIの思考中・・・");
             }
             return null;
         }
@@ -437,17 +445,21 @@ public class OthelloJudgeConsole {
         if (winnerColor == GameEngine.BLACK) {
             winner = blackAI.getPlayerName();
             result.winnerAiPah = blackAI.getAiPath();
+            result.winnerColor = GameEngine.BLACK;
         } else if (winnerColor == GameEngine.WHITE) {
             winner = whiteAI.getPlayerName();
             result.winnerAiPah = whiteAI.getAiPath();
+            result.winnerColor = GameEngine.WHITE;
         } else {
             // 0の場合、通常の石数判定か引き分け
             if (result.countBlack > result.countWhite) {
                 winner = blackAI.getPlayerName();
                 result.winnerAiPah = blackAI.getAiPath();
+                result.winnerColor = GameEngine.BLACK;
             } else if (result.countWhite > result.countBlack) {
                 winner = whiteAI.getPlayerName();
                 result.winnerAiPah = whiteAI.getAiPath();
+                result.winnerColor = GameEngine.WHITE;
             } else {
                 winner = "引き分け";
             }
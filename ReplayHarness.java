@@ -0,0 +1,298 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 対局ログ (.log) に記録された局面をAIに与え、着手の変化を確認するリプレイツール。
+ * 対局全体を再実行せず、記録された各局面で1手ずつ問い合わせる。
+ *
+ * 使用法: java -cp OthelloJudgeConsole.jar ReplayHarness [候補AIパス] [ログファイル or ディレクトリ]...
+ * オプション:
+ *   -Dothello.replay.player=[AI名]    指定したAIが打った局面のみを対象にする (例: RAI.jar)
+ *   -Dothello.replay.baseline=[AIパス] 同じ局面を基準AIにも与え、着手と応答時間を比較する
+ *   -Dothello.parallel=[数]           同時に問い合わせる局面数 (既定1)
+ * 候補AIが新たに無効手を打った、またはタイムアウト・エラーになった場合は終了コード1、
+ * 引数・ログの誤りや再生できる局面がない場合は終了コード2で終了する。
+ * 応答時間は局面ごとにAIプロセスを起動して測るため、プロセスの起動時間を含む。
+ */
+public class ReplayHarness {
+    public static final String PLAYER_PROPERTY = "othello.replay.player";
+    public static final String BASELINE_PROPERTY = "othello.replay.baseline";
+
+    private static final String INITIAL_BOARD = new GameEngine().boardToString();
+
+    /** ログに記録された1手 */
+    static class RecordedMove {
+        String logName;
+        int turn;
+        String board;
+        int color;
+        String player;
+        String move;
+    }
+
+    /** 1局面に対するAIの応答 */
+    static class Answer {
+        String move;
+        long millis;
+        String error;
+        boolean invalid; // プロトコル2でマス番号でもpassでもない応答
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("[ERROR] 起動エラー: 引数の数(" + args.length + ")が不正です。");
+            System.out.println("使用法: java -cp classes ReplayHarness [候補AIパス] [ログファイル or ディレクトリ]...");
+            System.exit(2);
+        }
+        String candidatePath = args[0];
+        String baselinePath = System.getProperty(BASELINE_PROPERTY);
+        String playerFilter = System.getProperty(PLAYER_PROPERTY);
+
+        // 1. ログの読み込み (同一局面は1回だけ問い合わせる)
+        Map<String, List<RecordedMove>> positions = new LinkedHashMap<>();
+        int logCount = 0;
+        int recordCount = 0;
+        List<String> skipped = new ArrayList<>();
+        try {
+            for (File file : listLogs(Arrays.asList(args).subList(1, args.length))) {
+                logCount++;
+                for (RecordedMove record : readLog(file, skipped)) {
+                    if (playerFilter != null && !playerFilter.equals(record.player)) {
+                        continue;
+                    }
+                    positions.computeIfAbsent(record.color + ":" + record.board, k -> new ArrayList<>()).add(record);
+                    recordCount++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ ログファイルの読み込みに失敗しました: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+        for (String line : skipped) {
+            System.out.println(line);
+        }
+        if (positions.isEmpty()) {
+            System.out.println("[ERROR] 再生できる局面がありません (ログ " + logCount + " 件、除外 " + skipped.size() + " 件)。");
+            System.exit(2);
+        }
+        System.out.println("ログ " + logCount + " 件、記録 " + recordCount + " 手、局面 " + positions.size() + " 件を再生します。");
+
+        // 2. 各局面をAIに並列で問い合わせる。候補AIの全局面を終えてから基準AIを同じ順序で問い合わせ、
+        //    両者のプロセス起動が同時に重なって応答時間が互いに影響しないようにする
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Integer.getInteger(MatchRunner.PARALLEL_PROPERTY, 1)));
+
+        // 3. 集計
+        int agree = 0;
+        int newIllegal = 0;
+        int failures = 0;
+        int baselineAgree = 0;
+        long candidateMillis = 0;
+        long baselineMillis = 0;
+        int timed = 0;
+        List<String> details = new ArrayList<>();
+        boolean fatal = false;
+        try {
+            List<Answer> candidateAnswers = askAll(executor, candidatePath, positions.values());
+            List<Answer> baselineAnswers = baselinePath == null ? null : askAll(executor, baselinePath, positions.values());
+            int index = 0;
+            for (List<RecordedMove> records : positions.values()) {
+                Answer candidate = candidateAnswers.get(index);
+                Answer baseline = baselineAnswers == null ? null : baselineAnswers.get(index);
+                index++;
+                RecordedMove first = records.get(0);
+
+                if (candidate.error != null) {
+                    failures += records.size();
+                    details.add("  [ERROR] " + describe(first) + ": " + candidate.error);
+                    continue;
+                }
+                if (baseline != null && baseline.error == null) {
+                    candidateMillis += candidate.millis;
+                    baselineMillis += baseline.millis;
+                    timed++;
+                    if (baseline.move.equalsIgnoreCase(candidate.move)) {
+                        baselineAgree++;
+                    }
+                } else if (baseline == null) {
+                    candidateMillis += candidate.millis;
+                    timed++;
+                }
+
+                boolean candidateLegal = !candidate.invalid && isLegal(first, candidate.move);
+                for (RecordedMove record : records) {
+                    if (!candidate.invalid && record.move.equalsIgnoreCase(candidate.move)) {
+                        agree++;
+                    } else if (!candidateLegal && isLegal(record, record.move)) {
+                        newIllegal++;
+                        details.add("  [無効手] " + describe(record) + ": 記録 " + record.move + " → 候補 " + candidate.move);
+                    } else {
+                        details.add("  [不一致] " + describe(record) + ": 記録 " + record.move + " → 候補 " + candidate.move);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("致命的なエラーが発生しました: " + e.getMessage());
+            e.printStackTrace();
+            fatal = true;
+        } finally {
+            executor.shutdownNow();
+        }
+        if (fatal) {
+            System.exit(2);
+        }
+
+        for (String line : details) {
+            System.out.println(line);
+        }
+        System.out.println("------------------------");
+        System.out.println(String.format("記録との一致: %d / %d (%.1f%%)", agree, recordCount,
+                recordCount == 0 ? 0.0 : agree * 100.0 / recordCount));
+        System.out.println("新たな無効手: " + newIllegal);
+        System.out.println("タイムアウト・エラー: " + failures);
+        if (baselinePath != null) {
+            System.out.println(String.format("基準AIとの一致: %d / %d 局面", baselineAgree, timed));
+            System.out.println(String.format("平均応答時間 (プロセス起動を含む): 候補 %d ms, 基準 %d ms (差 %+d ms)",
+                    timed == 0 ? 0 : candidateMillis / timed, timed == 0 ? 0 : baselineMillis / timed,
+                    timed == 0 ? 0 : (candidateMillis - baselineMillis) / timed));
+        } else {
+            System.out.println(String.format("平均応答時間 (プロセス起動を含む): 候補 %d ms", timed == 0 ? 0 : candidateMillis / timed));
+        }
+
+        if (newIllegal > 0 || failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /** 引数のファイルとディレクトリ直下の .log を列挙する */
+    private static List<File> listLogs(List<String> paths) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (String path : paths) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                File[] logs = file.listFiles((dir, name) -> name.endsWith(".log"));
+                if (logs != null) {
+                    Arrays.sort(logs);
+                    files.addAll(Arrays.asList(logs));
+                }
+            } else if (file.isFile()) {
+                files.add(file);
+            } else {
+                throw new IOException("ファイルが見つかりません: " + path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 対局ログから各手番の局面と着手を取り出す。
+     * 局面は直前の "MOVE BOARD:" 行 (着手後の盤面) から復元し、初手は初期配置とする。
+     * 盤面が不正な場合 (途中で切れたログなど) は、次の正しい盤面までの手を除外する。
+     * @param file 対局ログ
+     * @param skipped 除外した手の説明を追加するリスト
+     * @return 記録された手 (着手順)
+     */
+    static List<RecordedMove> readLog(File file, List<String> skipped) throws IOException {
+        List<RecordedMove> records = new ArrayList<>();
+        String board = INITIAL_BOARD;
+        RecordedMove current = null;
+        int turn = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("手番: ")) {
+                    // 例: 手番: 黒(1) - RAI.jar
+                    String name = line.substring("手番: ".length());
+                    current = new RecordedMove();
+                    current.logName = file.getName();
+                    current.turn = ++turn;
+                    current.board = board;
+                    current.color = name.startsWith("黒") ? GameEngine.BLACK : GameEngine.WHITE;
+                    int separator = name.indexOf(" - ");
+                    current.player = separator < 0 ? name : name.substring(separator + " - ".length());
+                } else if (line.startsWith(">>> ") && line.contains("が打った手: ") && current != null) {
+                    // 例: >>> 黒(1) - RAI.jarが打った手: d3 (人間の入力し直しは最後の手を採用)
+                    current.move = line.substring(line.indexOf("が打った手: ") + "が打った手: ".length()).trim();
+                    if (current.board == null) {
+                        skipped.add("  [除外] " + describe(current) + ": 直前の盤面が不正です");
+                        current = null;
+                    } else if (records.isEmpty() || records.get(records.size() - 1) != current) {
+                        records.add(current);
+                    }
+                } else if (line.startsWith("MOVE BOARD:")) {
+                    board = line.substring("MOVE BOARD:".length()).trim();
+                    if (!GameEngine.isValidBoardString(board)) {
+                        board = null;
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    /** 全局面の先頭の記録を、記録順に1つのAIへ問い合わせる */
+    private static List<Answer> askAll(ExecutorService executor, String aiPath, Collection<List<RecordedMove>> positions)
+            throws Exception {
+        List<Future<Answer>> futures = new ArrayList<>();
+        for (List<RecordedMove> records : positions) {
+            RecordedMove record = records.get(0);
+            futures.add(executor.submit(() -> ask(aiPath, record)));
+        }
+        List<Answer> answers = new ArrayList<>();
+        for (Future<Answer> future : futures) {
+            answers.add(future.get());
+        }
+        return answers;
+    }
+
+    /** 局面をAIに与えて着手と応答時間を得る */
+    private static Answer ask(String aiPath, RecordedMove record) {
+        AIPlayerAdapter adapter = new AIPlayerAdapter(aiPath, record.color);
+        Answer answer = new Answer();
+        long start = 0;
+        try {
+            GameEngine engine = new GameEngine();
+            engine.loadBoard(record.board, record.color);
+            adapter.getProtocolVersion(); // ハンドシェイクは応答時間に含めない
+            start = System.nanoTime();
+            AIPlayerAdapter.Reply reply = adapter.getMove(engine);
+            answer.move = reply.move;
+            answer.invalid = reply.invalid;
+        } catch (TimeoutException | IOException e) {
+            answer.error = e.getMessage();
+        } finally {
+            answer.millis = (System.nanoTime() - start) / 1_000_000;
+            adapter.close(); // 常駐モード (-Dothello.warm) のプロセスを残さない
+        }
+        return answer;
+    }
+
+    /** 局面で着手が合法かどうか (パスは合法手がない場合のみ合法) */
+    private static boolean isLegal(RecordedMove record, String move) {
+        GameEngine engine = new GameEngine();
+        engine.loadBoard(record.board, record.color);
+        if (move.equalsIgnoreCase("pass")) {
+            return !engine.hasLegalMove();
+        }
+        return engine.applyMove(move);
+    }
+
+    private static String describe(RecordedMove record) {
+        return record.logName + " " + record.turn + "手目 (" + record.player + ")";
+    }
+}
@@ -3,4 +3,6 @@ public class Result {
   public int countBlack;
   public String winnerAiPah;
   public String reason;
+  /** 勝者の色 (GameEngine.BLACK / GameEngine.WHITE)。引き分けは0 */
+  public int winnerColor;
 }
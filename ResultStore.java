@@ -0,0 +1,261 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 全対局の結果を列指向で保持するストア。
+ * 1局ごとにオブジェクトを残さず、列 (黒番AI・白番AI・勝敗・黒石数・白石数) ごとの
+ * プリミティブ配列に追記するため、10万局規模でも1局あたり7バイトで済む。
+ * 対戦表・手番別勝率の集計とCSVへの逐次出力ができる。
+ * オプション:
+ *   -Dothello.results.offheap=true  列をヒープ外 (ダイレクトバッファ) に確保する
+ *   -Dothello.results.report=true   順位表の後に対戦表と手番別勝率を表示する
+ *   -Dothello.results.csv=[ファイル] 全対局の結果をCSVで出力する
+ */
+public class ResultStore {
+    public static final String OFFHEAP_PROPERTY = "othello.results.offheap";
+    public static final String REPORT_PROPERTY = "othello.results.report";
+    public static final String CSV_PROPERTY = "othello.results.csv";
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final boolean offHeap;
+    private final Map<AiInfo, Integer> ids = new IdentityHashMap<>();
+    private final List<AiInfo> entrants = new ArrayList<>();
+
+    private int size;
+    private ShortBuffer blackIds;
+    private ShortBuffer whiteIds;
+    private ByteBuffer outcomes; // 勝者の色 (引き分けは0)
+    private ByteBuffer blackDiscs;
+    private ByteBuffer whiteDiscs;
+
+    public ResultStore(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.blackIds = allocate(INITIAL_CAPACITY * 2).asShortBuffer();
+        this.whiteIds = allocate(INITIAL_CAPACITY * 2).asShortBuffer();
+        this.outcomes = allocate(INITIAL_CAPACITY);
+        this.blackDiscs = allocate(INITIAL_CAPACITY);
+        this.whiteDiscs = allocate(INITIAL_CAPACITY);
+    }
+
+    /** システムプロパティの設定でResultStoreを生成する */
+    public static ResultStore fromSystemProperties() {
+        return new ResultStore(Boolean.getBoolean(OFFHEAP_PROPERTY));
+    }
+
+    /**
+     * 1局の結果を追記する。
+     * @param black 黒番AI
+     * @param white 白番AI
+     * @param result 対局結果
+     */
+    public synchronized void add(AiInfo black, AiInfo white, Result result) {
+        if (size == outcomes.capacity()) {
+            grow();
+        }
+        blackIds.put(size, (short) idOf(black));
+        whiteIds.put(size, (short) idOf(white));
+        outcomes.put(size, (byte) result.winnerColor);
+        blackDiscs.put(size, (byte) result.countBlack);
+        whiteDiscs.put(size, (byte) result.countWhite);
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 対戦表を集計する。
+     * @return [自分][相手][0:勝ち, 1:負け, 2:引き分け] (添字は参加AIの登録順)
+     */
+    public synchronized int[][][] crossTable() {
+        int n = entrants.size();
+        int[][][] table = new int[n][n][3];
+        for (int i = 0; i < size; i++) {
+            int b = blackIds.get(i);
+            int w = whiteIds.get(i);
+            int outcome = outcomes.get(i);
+            if (outcome == GameEngine.BLACK) {
+                table[b][w][0]++;
+                table[w][b][1]++;
+            } else if (outcome == GameEngine.WHITE) {
+                table[w][b][0]++;
+                table[b][w][1]++;
+            } else {
+                table[b][w][2]++;
+                table[w][b][2]++;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 手番別の成績を集計する。
+     * @return [参加AI][0:黒番勝ち, 1:黒番対局数, 2:白番勝ち, 3:白番対局数, 4:石数差の合計]
+     */
+    public synchronized int[][] colorStats() {
+        int[][] stats = new int[entrants.size()][5];
+        for (int i = 0; i < size; i++) {
+            int b = blackIds.get(i);
+            int w = whiteIds.get(i);
+            int outcome = outcomes.get(i);
+            int diff = blackDiscs.get(i) - whiteDiscs.get(i);
+            stats[b][1]++;
+            stats[w][3]++;
+            if (outcome == GameEngine.BLACK) {
+                stats[b][0]++;
+            } else if (outcome == GameEngine.WHITE) {
+                stats[w][2]++;
+            }
+            stats[b][4] += diff;
+            stats[w][4] -= diff;
+        }
+        return stats;
+    }
+
+    /**
+     * 対戦表と手番別勝率を表示する。
+     * @param ranking 表示順 (順位順)
+     * @param out 出力先
+     */
+    public synchronized void printReport(List<AiInfo> ranking, PrintStream out) {
+        int[][][] table = crossTable();
+        int[][] stats = colorStats();
+
+        out.println("------------------------");
+        out.println("対戦表 (勝ち-負け-引分、行のAIから見た成績)");
+        StringBuilder header = new StringBuilder("     ");
+        for (int c = 0; c < ranking.size(); c++) {
+            header.append(String.format(" %8s", "#" + (c + 1)));
+        }
+        out.println(header);
+        for (int r = 0; r < ranking.size(); r++) {
+            Integer row = ids.get(ranking.get(r));
+            StringBuilder line = new StringBuilder(String.format("#%-4d", r + 1));
+            for (int c = 0; c < ranking.size(); c++) {
+                Integer col = ids.get(ranking.get(c));
+                if (row == null || col == null || row.equals(col)) {
+                    line.append(String.format(" %8s", "-"));
+                } else {
+                    int[] cell = table[row][col];
+                    line.append(String.format(" %02d-%02d-%02d", cell[0], cell[1], cell[2]));
+                }
+            }
+            out.println(line + " : " + ranking.get(r).file.getName());
+        }
+
+        out.println("------------------------");
+        out.println("手番別勝率");
+        for (int r = 0; r < ranking.size(); r++) {
+            Integer id = ids.get(ranking.get(r));
+            if (id == null) {
+                continue;
+            }
+            int[] s = stats[id];
+            int games = s[1] + s[3];
+            out.println(String.format("#%d 黒番:%5.1f%% (%d局), 白番:%5.1f%% (%d局), 平均石数差:%+.1f : %s",
+                    r + 1, rate(s[0], s[1]), s[1], rate(s[2], s[3]), s[3],
+                    games == 0 ? 0.0 : (double) s[4] / games, ranking.get(r).file.getName()));
+        }
+    }
+
+    /**
+     * 全対局の結果をCSVで逐次出力する。
+     * 列: game,black,white,winner,black_discs,white_discs,disc_diff
+     * @param out 出力先
+     */
+    public synchronized void writeCsv(Writer out) throws IOException {
+        out.write("game,black,white,winner,black_discs,white_discs,disc_diff\n");
+        String[] names = new String[entrants.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = csvField(entrants.get(i).file.getName());
+        }
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            int outcome = outcomes.get(i);
+            int b = blackDiscs.get(i);
+            int w = whiteDiscs.get(i);
+            line.setLength(0);
+            line.append(i + 1).append(',')
+                    .append(names[blackIds.get(i)]).append(',')
+                    .append(names[whiteIds.get(i)]).append(',')
+                    .append(outcome == GameEngine.BLACK ? "black" : outcome == GameEngine.WHITE ? "white" : "draw").append(',')
+                    .append(b).append(',')
+                    .append(w).append(',')
+                    .append(b - w).append('\n');
+            out.append(line);
+        }
+        out.flush();
+    }
+
+    /** 全対局の結果をCSVファイルに出力する */
+    public void exportCsv(File file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writeCsv(out);
+        }
+    }
+
+    private int idOf(AiInfo ai) {
+        Integer id = ids.get(ai);
+        if (id == null) {
+            id = entrants.size();
+            ids.put(ai, id);
+            entrants.add(ai);
+        }
+        return id;
+    }
+
+    /** 全ての列の容量を2倍にする */
+    private void grow() {
+        int capacity = outcomes.capacity() * 2;
+        blackIds = copy(blackIds, capacity);
+        whiteIds = copy(whiteIds, capacity);
+        outcomes = copy(outcomes, capacity);
+        blackDiscs = copy(blackDiscs, capacity);
+        whiteDiscs = copy(whiteDiscs, capacity);
+    }
+
+    private ShortBuffer copy(ShortBuffer column, int capacity) {
+        ShortBuffer grown = allocate(capacity * 2).asShortBuffer();
+        ShortBuffer src = column.duplicate();
+        src.position(0).limit(size);
+        grown.put(src);
+        return grown;
+    }
+
+    private ByteBuffer copy(ByteBuffer column, int capacity) {
+        ByteBuffer grown = allocate(capacity);
+        ByteBuffer src = column.duplicate();
+        src.position(0).limit(size);
+        grown.put(src);
+        return grown;
+    }
+
+    private ByteBuffer allocate(int bytes) {
+        return offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+    }
+
+    private static double rate(int wins, int games) {
+        return games == 0 ? 0.0 : wins * 100.0 / games;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
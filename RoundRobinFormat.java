@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * 総当たり戦。全ての組み合わせを黒白入れ替えて各3回対戦する。
+ */
+public class RoundRobinFormat implements TournamentFormat {
+    // 同じ組み合わせ・手番での対戦回数
+    private static final int GAMES_PER_PAIRING = 3;
+
+    @Override
+    public List<AiInfo> run(List<AiInfo> entrants, MatchRunner runner) throws Exception {
+        // 全対局を先に登録し、表示は組み合わせ順に行う
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int b = 0; b < entrants.size(); b++) {
+            for (int w = 0; w < entrants.size(); w++) {
+                if (b == w) {
+                    continue;
+                }
+                for (int l = 1; l <= GAMES_PER_PAIRING; l++) {
+                    futures.add(runner.submit(entrants.get(b), entrants.get(w)));
+                }
+            }
+        }
+
+        int index = 0;
+        for (int b = 0; b < entrants.size(); b++) {
+            for (int w = 0; w < entrants.size(); w++) {
+                if (b == w) {
+                    continue;
+                }
+
+                AiInfo blackAi = entrants.get(b);
+                AiInfo whiteAi = entrants.get(w);
+
+                System.out.println("");
+                System.out.println("黒：" + blackAi.file.getName() + "  vs  白：" + whiteAi.file.getName());
+
+                for (int l = 1; l <= GAMES_PER_PAIRING; l++) {
+                    System.out.print("  " + l + "回戦:対戦中・・・");
+                    // 表示済みの結果は保持しない (集計はResultStoreに残る)
+                    Result result = futures.set(index++, null).get();
+                    System.out.print("\r");
+                    System.out.println(String.format("  %d回戦:試合終了：黒(%02d), 白(%02d), %s : %s",
+                            l, result.countBlack, result.countWhite, MatchRunner.describeWinner(result), result.reason));
+                } // l
+            } // w
+        } // b
+
+        List<AiInfo> ranking = new ArrayList<>(entrants);
+        ranking.sort(new Comparator<AiInfo>() {
+            @Override
+            public int compare(AiInfo a1, AiInfo a2) {
+                if (a1.getWins() == a2.getWins()) {
+                    // 勝利数が同じ場合は負け数が少ない方が上
+                    return a1.getLoses() - a2.getLoses();
+                }
+                return a2.getWins() - a1.getWins();
+            }
+        });
+        return ranking;
+    }
+}
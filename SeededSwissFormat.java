@@ -0,0 +1,54 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 予選リーグ + スイス式。
+ * 参加AIをシード順にスネーク方式で小グループへ分けてグループ内総当たりを行い、
+ * 予選の勝率順をシード順としてスイス式を行う。グループの人数が揃わない場合があるため、
+ * 予選の勝ち数そのものは持ち越さない。予選の対局数は O(n × グループ人数)。
+ * グループ人数の指定: -Dothello.seed.group=[人数] (既定4)
+ */
+public class SeededSwissFormat extends SwissFormat {
+    public static final String GROUP_SIZE_PROPERTY = "othello.seed.group";
+
+    @Override
+    protected List<AiInfo> seed(List<AiInfo> entrants, MatchRunner runner) throws Exception {
+        int groupSize = Math.max(2, Integer.getInteger(GROUP_SIZE_PROPERTY, 4));
+        int groupCount = Math.max(1, (entrants.size() + groupSize - 1) / groupSize);
+
+        List<List<AiInfo>> groups = new ArrayList<>();
+        for (int g = 0; g < groupCount; g++) {
+            groups.add(new ArrayList<>());
+        }
+        // スネーク方式: 0,1,2,...,n-1,n-1,...,1,0,0,1,...
+        for (int i = 0; i < entrants.size(); i++) {
+            int lap = i / groupCount;
+            int pos = i % groupCount;
+            groups.get(lap % 2 == 0 ? pos : groupCount - 1 - pos).add(entrants.get(i));
+        }
+
+        // 全グループの対局をまとめて実行する
+        List<AiInfo[]> games = new ArrayList<>();
+        for (List<AiInfo> group : groups) {
+            for (int a = 0; a < group.size(); a++) {
+                for (int b = a + 1; b < group.size(); b++) {
+                    addMatch(games, group.get(a), group.get(b));
+                }
+            }
+        }
+        System.out.println("");
+        System.out.println("予選リーグ (" + groupCount + "グループ)");
+        play(games, runner);
+
+        // 予選の勝率 (引き分けは0.5勝) 順。同率は元のシード順
+        List<AiInfo> seeded = new ArrayList<>(entrants);
+        seeded.sort(Comparator.comparingDouble(SeededSwissFormat::winRate).reversed());
+        return seeded;
+    }
+
+    private static double winRate(AiInfo ai) {
+        int games = ai.getWins() + ai.getLoses() + ai.getDraws();
+        return games == 0 ? 0.0 : (ai.getWins() + ai.getDraws() * 0.5) / games;
+    }
+}
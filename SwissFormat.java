@@ -0,0 +1,211 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * スイス式。毎回戦、順位点の近いAI同士を組み合わせる。再戦なしで全員を組める場合は
+ * 必ず再戦を避け、組めない場合のみ順位順に組む。
+ * 1試合は黒白を入れ替えた2局。回戦数の既定は log2(参加数) の切り上げで、
+ * 総対局数は O(n log n) に収まる。
+ * 回戦数の指定: -Dothello.swiss.rounds=[回戦数]
+ */
+public class SwissFormat implements TournamentFormat {
+    public static final String ROUNDS_PROPERTY = "othello.swiss.rounds";
+    // 1試合あたりの対局数 (黒白1局ずつ)
+    protected static final int GAMES_PER_MATCH = 2;
+
+    /** 対戦済みの相手 (予選を含む。再戦回避に使う) */
+    protected final Map<AiInfo, Set<AiInfo>> opponents = new HashMap<>();
+    /** スイス式での対戦相手 (ブッフホルツ計算に使う) */
+    private final Map<AiInfo, List<AiInfo>> swissOpponents = new HashMap<>();
+    private final Set<AiInfo> byes = new HashSet<>();
+    // スイス式開始時点の順位点・獲得石数 (予選の成績は持ち越さない)
+    private final Map<AiInfo, Double> baseScores = new HashMap<>();
+    private final Map<AiInfo, Integer> baseStones = new HashMap<>();
+
+    @Override
+    public List<AiInfo> run(List<AiInfo> entrants, MatchRunner runner) throws Exception {
+        for (AiInfo ai : entrants) {
+            opponents.put(ai, new HashSet<>());
+            swissOpponents.put(ai, new ArrayList<>());
+        }
+
+        List<AiInfo> seeded = seed(entrants, runner);
+        for (AiInfo ai : seeded) {
+            baseScores.put(ai, ai.getScore());
+            baseStones.put(ai, ai.countStone);
+        }
+
+        int rounds = Integer.getInteger(ROUNDS_PROPERTY, defaultRounds(entrants.size()));
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("");
+            System.out.println("スイス式 第" + round + "回戦");
+
+            List<AiInfo> pool = standings(seeded, false);
+            if (pool.size() % 2 == 1) {
+                AiInfo bye = pickBye(pool);
+                pool.remove(bye);
+                byes.add(bye);
+                bye.winBye += GAMES_PER_MATCH;
+                System.out.println("  不戦勝：" + bye.file.getName());
+            }
+            List<AiInfo[]> pairs = pairWithoutRematch(pool);
+            if (pairs == null) {
+                // 再戦なしの組み合わせがない場合のみ、順位順に組む
+                pairs = pairGreedy(pool);
+            }
+
+            List<AiInfo[]> games = new ArrayList<>();
+            for (AiInfo[] pair : pairs) {
+                addMatch(games, pair[0], pair[1]);
+                swissOpponents.get(pair[0]).add(pair[1]);
+                swissOpponents.get(pair[1]).add(pair[0]);
+            }
+            play(games, runner);
+        }
+
+        return standings(seeded, true);
+    }
+
+    @Override
+    public String describeStanding(AiInfo ai) {
+        return String.format(", 得点:%.1f(不戦勝:%d), ブッフホルツ:%.1f",
+                score(ai), ai.winBye / GAMES_PER_MATCH, buchholz(ai));
+    }
+
+    /**
+     * スイス式の前に行う予選。既定では何もしない。
+     * 予選の成績はスイス式の順位点には持ち越さず、初回の組み合わせ順にのみ使う。
+     * @param entrants 参加AI
+     * @param runner 対局の実行に使うMatchRunner
+     * @return スイス式のシード順に並べた参加AI
+     */
+    protected List<AiInfo> seed(List<AiInfo> entrants, MatchRunner runner) throws Exception {
+        return entrants;
+    }
+
+    /** 黒白を入れ替えた2局を登録し、対戦済みとして記録する */
+    protected void addMatch(List<AiInfo[]> games, AiInfo a, AiInfo b) {
+        games.add(new AiInfo[] { a, b });
+        games.add(new AiInfo[] { b, a });
+        opponents.get(a).add(b);
+        opponents.get(b).add(a);
+    }
+
+    /** 対局をまとめて実行し、結果を表示する */
+    protected void play(List<AiInfo[]> games, MatchRunner runner) throws Exception {
+        List<Result> results = runner.playAll(games);
+        for (int i = 0; i < games.size(); i++) {
+            System.out.println(MatchRunner.formatGame(games.get(i)[0], games.get(i)[1], results.get(i)));
+        }
+    }
+
+    /** スイス式で得た順位点 */
+    private double score(AiInfo ai) {
+        return ai.getScore() - baseScores.get(ai);
+    }
+
+    /** スイス式の対戦相手の順位点の合計 */
+    private double buchholz(AiInfo ai) {
+        double sum = 0;
+        for (AiInfo opponent : swissOpponents.get(ai)) {
+            sum += score(opponent);
+        }
+        return sum;
+    }
+
+    /**
+     * 不戦勝は、まだ不戦勝になっておらず、残りを再戦なしで組めるAIのうち最下位に与える。
+     * 該当するAIがいない場合は、まだ不戦勝になっていない最下位のAIに与える。
+     */
+    private AiInfo pickBye(List<AiInfo> pool) {
+        AiInfo fallback = null;
+        for (int i = pool.size() - 1; i >= 0; i--) {
+            AiInfo ai = pool.get(i);
+            if (byes.contains(ai)) {
+                continue;
+            }
+            if (fallback == null) {
+                fallback = ai;
+            }
+            List<AiInfo> rest = new ArrayList<>(pool);
+            rest.remove(i);
+            if (pairWithoutRematch(rest) != null) {
+                return ai;
+            }
+        }
+        return fallback != null ? fallback : pool.get(pool.size() - 1);
+    }
+
+    /**
+     * 順位順に、上位のAIからまだ対戦していない相手を割り当てる (バックトラックあり)。
+     * @param pool 順位順に並べたAI (偶数人)
+     * @return 組み合わせ。再戦なしで全員を組めない場合はnull
+     */
+    private List<AiInfo[]> pairWithoutRematch(List<AiInfo> pool) {
+        if (pool.isEmpty()) {
+            return new ArrayList<>();
+        }
+        AiInfo a = pool.get(0);
+        for (int i = 1; i < pool.size(); i++) {
+            AiInfo b = pool.get(i);
+            if (opponents.get(a).contains(b)) {
+                continue;
+            }
+            List<AiInfo> rest = new ArrayList<>(pool);
+            rest.remove(i);
+            rest.remove(0);
+            List<AiInfo[]> pairs = pairWithoutRematch(rest);
+            if (pairs != null) {
+                pairs.add(0, new AiInfo[] { a, b });
+                return pairs;
+            }
+        }
+        return null;
+    }
+
+    /** 順位順に、上位のAIから最初の未対戦の相手 (いなければ次の順位のAI) を割り当てる */
+    private List<AiInfo[]> pairGreedy(List<AiInfo> pool) {
+        List<AiInfo> rest = new ArrayList<>(pool);
+        List<AiInfo[]> pairs = new ArrayList<>();
+        while (!rest.isEmpty()) {
+            AiInfo a = rest.remove(0);
+            AiInfo b = rest.get(0);
+            for (AiInfo candidate : rest) {
+                if (!opponents.get(a).contains(candidate)) {
+                    b = candidate;
+                    break;
+                }
+            }
+            rest.remove(b);
+            pairs.add(new AiInfo[] { a, b });
+        }
+        return pairs;
+    }
+
+    /**
+     * 現在の順位。順位点、(最終順位のみ)ブッフホルツ、獲得石数、シード順で並べる。
+     * いずれもスイス式の対局のみで数える。
+     * @param seeded 参加AI (シード順)
+     * @param useBuchholz ブッフホルツ(対戦相手の順位点の合計)を同点時の判定に使うか
+     */
+    private List<AiInfo> standings(List<AiInfo> seeded, boolean useBuchholz) {
+        List<AiInfo> order = new ArrayList<>(seeded);
+        order.sort(Comparator.comparingDouble(this::score).reversed()
+                .thenComparing(Comparator.comparingDouble((AiInfo ai) -> useBuchholz ? buchholz(ai) : 0).reversed())
+                .thenComparing(Comparator.comparingInt((AiInfo ai) -> ai.countStone - baseStones.get(ai)).reversed()));
+        return order;
+    }
+
+    static int defaultRounds(int entrantCount) {
+        int rounds = 1;
+        while ((1 << rounds) < entrantCount) {
+            rounds++;
+        }
+        return rounds;
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.List;
+
+/**
+ * 大会形式。対局の組み合わせを決め、MatchRunnerで実行して順位を返す。
+ * 形式の指定: -Dothello.format=[roundrobin|swiss|seeded-swiss|single|double]
+ */
+public interface TournamentFormat {
+    String FORMAT_PROPERTY = "othello.format";
+
+    /**
+     * 大会を実行する。
+     * @param entrants 参加AI (入力順をシード順とする)
+     * @param runner 対局の実行に使うMatchRunner
+     * @return 順位順に並べた参加AI
+     */
+    List<AiInfo> run(List<AiInfo> entrants, MatchRunner runner) throws Exception;
+
+    /**
+     * 順位表の行に添える、この形式での順位の根拠。
+     * @param ai 参加AI (run の後に呼ぶ)
+     * @return 追記する文字列 (例: ", 得点:3.0(不戦勝:1)")。既定は空文字
+     */
+    default String describeStanding(AiInfo ai) {
+        return "";
+    }
+
+    /**
+     * 名前から大会形式を生成する。
+     * @param name 形式名 (nullの場合は総当たり)
+     * @return 大会形式
+     * @throws IllegalArgumentException 未知の形式名の場合
+     */
+    static TournamentFormat of(String name) {
+        if (name == null || name.isEmpty() || name.equals("roundrobin")) {
+            return new RoundRobinFormat();
+        } else if (name.equals("swiss")) {
+            return new SwissFormat();
+        } else if (name.equals("seeded-swiss")) {
+            return new SeededSwissFormat();
+        } else if (name.equals("single")) {
+            return new EliminationFormat(1);
+        } else if (name.equals("double")) {
+            return new EliminationFormat(2);
+        }
+        throw new IllegalArgumentException("未知の大会形式です: " + name);
+    }
+}